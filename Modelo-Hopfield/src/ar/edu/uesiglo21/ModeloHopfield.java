@@ -1,6 +1,11 @@
 package ar.edu.uesiglo21;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 import Jama.Matrix;
 
@@ -9,6 +14,10 @@ import Jama.Matrix;
  * Permite entrenar una red para almacenar patrones y posteriormente recuperarlos, incluso dañados o incompletos.
  * <br><br>
  * Utiliza representación matricial para mostrar visualmente el patrón por consola.
+ * <br><br>
+ * Para acelerar la recuperación sincrónica, la red mantiene un índice (empaquetado y con hash) de los patrones
+ * entrenados y una caché LRU con los últimos resultados. Así, una entrada que coincide con un patrón almacenado
+ * estable, o que ya fue recuperada hace poco, se resuelve en O(n) sin recorrer la matriz de pesos.
  */
 public class ModeloHopfield {
     /** Matriz de pesos sinápticos entre neuronas. */
@@ -17,6 +26,44 @@ public class ModeloHopfield {
     /** Cantidad total de neuronas (dimensión de la red). */
     private int tamano;
 
+    /** Cantidad máxima de resultados de recuperación que se guardan en la caché. */
+    private static final int CAPACIDAD_CACHE = 64;
+
+    /** Patrones entrenados (empaquetados), en el mismo orden en que se almacenaron. */
+    private final List<PatronEmpaquetado> patronesEmpaquetados = new ArrayList<>();
+
+    /** Índice para encontrar en O(n) si una entrada coincide exactamente con un patrón entrenado. */
+    private final Map<PatronEmpaquetado, Integer> indicePatrones = new HashMap<>();
+
+    /** Si cada patrón entrenado es un punto fijo de la red. {@code null} mientras no se haya verificado. */
+    private final List<Boolean> patronesEstables = new ArrayList<>();
+
+    /** Caché LRU de recuperaciones sincrónicas recientes: entrada → atractor alcanzado. */
+    private final Map<PatronEmpaquetado, ResultadoRellamado> cacheRellamados =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<PatronEmpaquetado, ResultadoRellamado> mayor) {
+                    return size() > CAPACIDAD_CACHE;
+                }
+            };
+
+    /**
+     * Distancia de Hamming máxima a un patrón almacenado estable para dar por terminada la recuperación.
+     * Con 0 (valor por defecto) sólo se corta ante una coincidencia exacta, que es lo mismo que haría la iteración.
+     */
+    private int toleranciaHamming = 0;
+
+    /** Atractor alcanzado por una recuperación y cantidad de iteraciones que hicieron falta para llegar. */
+    private static final class ResultadoRellamado {
+        private final PatronEmpaquetado atractor;
+        private final int iteraciones;
+
+        private ResultadoRellamado(PatronEmpaquetado atractor, int iteraciones) {
+            this.atractor = atractor;
+            this.iteraciones = iteraciones;
+        }
+    }
+
     /**
      * Constructor que inicializa la red neuronal con un tamaño específico.
      *
@@ -45,7 +92,9 @@ public class ModeloHopfield {
                     }
                 }
             }
+            registrarPatron(p);
         }
+        invalidarVerificaciones();
         System.out.println("√ ¡Finalizado! Red neuronal entrenada con Hebb.");
     }
 
@@ -120,12 +169,39 @@ public class ModeloHopfield {
                 //pesos[i][j] = (int)Math.round(W.get(i, j)); //este método de reondeo es problemático. Lo dejo comentado para no volver a usarlo
             }
         }
+
+        // La matriz de pesos se reemplaza por completo, así que el índice pasa a contener sólo estos patrones
+        patronesEmpaquetados.clear();
+        indicePatrones.clear();
+        for (int[] p : patrones) {
+            registrarPatron(p);
+        }
+        invalidarVerificaciones();
         System.out.println("√ ¡Finalizado! Red neuronal entrenada con pseudoinversa.");
     }
 
+    /**
+     * Define cuán cerca (en cantidad de neuronas distintas) tiene que estar el estado de un patrón almacenado
+     * estable para cortar la recuperación sincrónica y devolver directamente ese patrón.
+     * Vacía la caché de resultados, ya que éstos dependen de la tolerancia.
+     *
+     * @param toleranciaHamming Distancia de Hamming máxima (0 = sólo coincidencia exacta).
+     */
+    public void setToleranciaHamming(int toleranciaHamming) {
+        if (toleranciaHamming < 0) {
+            throw new IllegalArgumentException("La tolerancia de Hamming no puede ser negativa: " + toleranciaHamming);
+        }
+        this.toleranciaHamming = toleranciaHamming;
+        cacheRellamados.clear();
+    }
+
     /**
      * Intenta recuperar un patrón almacenado a partir de una entrada dañada o incompleta.
      * Además, indica cuando se ha alcanzado un patrón estable.
+     * <br><br>
+     * Antes de iterar se consulta la caché de resultados recientes y el índice de patrones almacenados (sólo si la
+     * entrada es estrictamente bipolar: una entrada incompleta, con ceros, siempre se itera); después de cada iteración se verifica si el estado quedó a {@code toleranciaHamming} neuronas o menos de un patrón
+     * almacenado estable, en cuyo caso se devuelve ese patrón sin más iteraciones.
      *
      * @param patron Patron inicial dañado o incompleto.
      * @param iteraciones Número de iteraciones máximas para estabilizar el patrón.
@@ -134,6 +210,27 @@ public class ModeloHopfield {
     public int[] rellamarSincronico(int[] patron, int iteraciones) {
         int[] resultado = Arrays.copyOf(patron, tamano);
         System.out.println("\n♦♦  Iniciando recuperación del patrón...  ♦♦");
+
+        // El empaquetado no distingue los ceros de los -1, así que las entradas incompletas no usan caché ni índice
+        PatronEmpaquetado entrada = PatronEmpaquetado.esBipolar(resultado) ? new PatronEmpaquetado(resultado) : null;
+
+        // Camino rápido 1: la misma entrada se recuperó hace poco (y con no más iteraciones que las permitidas)
+        ResultadoRellamado previo = entrada != null ? cacheRellamados.get(entrada) : null;
+        if (previo != null && previo.iteraciones <= iteraciones) {
+            System.out.println("Patrón recuperado desde la caché de resultados recientes ♣♣♣♣");
+            int[] atractor = previo.atractor.desempaquetar();
+            printPatron(atractor, (int)Math.sqrt(tamano));
+            System.out.println("\n♦♦  ¡Reconstrucción completada!  ♦♦");
+            return atractor;
+        }
+
+        // Camino rápido 2: la entrada ya está (casi) sobre un patrón almacenado estable
+        int cercano = entrada != null ? buscarPatronEstableCercano(entrada) : -1;
+        if (cercano >= 0) {
+            System.out.println("La entrada " + describirCercania(entrada, cercano) + " ♣♣♣♣");
+            return finalizarEnPatronAlmacenado(entrada, cercano, 0);
+        }
+
         for (int iteracion = 0; iteracion < iteraciones; iteracion++) {
             System.out.println("\nIteración " + (iteracion + 1) + ":");
             int[] nuevoResultado = new int[tamano];
@@ -149,16 +246,133 @@ public class ModeloHopfield {
             if (Arrays.equals(nuevoResultado, resultado)) {
                 System.out.println("Patrón estable alcanzado en iteración " + (iteracion + 1) +"♣♣♣♣");
                 printPatron(nuevoResultado, (int)Math.sqrt(tamano));
+                guardarEnCache(entrada, new PatronEmpaquetado(resultado), iteracion + 1);
                 break;
             }
 
             resultado = nuevoResultado;
+
+            // Corte temprano: el estado (ya bipolar) quedó sobre o cerca de un patrón almacenado estable
+            PatronEmpaquetado estado = new PatronEmpaquetado(resultado);
+            cercano = buscarPatronEstableCercano(estado);
+            if (cercano >= 0) {
+                System.out.println("El estado " + describirCercania(estado, cercano) + " en iteración "
+                        + (iteracion + 1) + " ♣♣♣♣");
+                return finalizarEnPatronAlmacenado(entrada, cercano, iteracion + 1);
+            }
             printPatron(resultado, (int)Math.sqrt(tamano));
         }
         System.out.println("\n♦♦  ¡Reconstrucción completada!  ♦♦");
         return resultado;
     }
 
+    /**
+     * Agrega un patrón entrenado al índice de patrones almacenados (si no estaba ya).
+     */
+    private void registrarPatron(int[] patron) {
+        int[] copia = Arrays.copyOf(patron, tamano);
+        if (!PatronEmpaquetado.esBipolar(copia)) {
+            return; // no se puede representar sin pérdida, así que no participa de los caminos rápidos
+        }
+        PatronEmpaquetado empaquetado = new PatronEmpaquetado(copia);
+        if (!indicePatrones.containsKey(empaquetado)) {
+            indicePatrones.put(empaquetado, patronesEmpaquetados.size());
+            patronesEmpaquetados.add(empaquetado);
+            patronesEstables.add(null);
+        }
+    }
+
+    /**
+     * Descarta todo lo que depende de la matriz de pesos: la verificación de estabilidad de los patrones
+     * almacenados y los resultados guardados en la caché.
+     */
+    private void invalidarVerificaciones() {
+        patronesEstables.clear();
+        for (int k = 0; k < patronesEmpaquetados.size(); k++) {
+            patronesEstables.add(null);
+        }
+        cacheRellamados.clear();
+    }
+
+    /**
+     * Busca un patrón almacenado estable a distancia de Hamming {@code toleranciaHamming} o menos del estado dado.
+     * La coincidencia exacta se resuelve con el índice; las aproximadas comparan contra cada patrón empaquetado.
+     *
+     * @return Posición del patrón encontrado, o -1 si no hay ninguno.
+     */
+    private int buscarPatronEstableCercano(PatronEmpaquetado estado) {
+        Integer exacto = indicePatrones.get(estado);
+        if (exacto != null && esEstable(exacto)) {
+            return exacto;
+        }
+        if (toleranciaHamming > 0) {
+            for (int k = 0; k < patronesEmpaquetados.size(); k++) {
+                if (patronesEmpaquetados.get(k).distanciaHamming(estado) <= toleranciaHamming && esEstable(k)) {
+                    return k;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Verifica (una sola vez por entrenamiento) si el patrón almacenado es un punto fijo de la red.
+     */
+    private boolean esEstable(int indice) {
+        Boolean estable = patronesEstables.get(indice);
+        if (estable == null) {
+            int[] p = patronesEmpaquetados.get(indice).desempaquetar();
+            estable = true;
+            for (int i = 0; i < tamano && estable; i++) {
+                int suma = 0;
+                for (int j = 0; j < tamano; j++) {
+                    suma += pesos[i][j] * p[j];
+                }
+                estable = (suma >= 0 ? 1 : -1) == p[i];
+            }
+            patronesEstables.set(indice, estable);
+        }
+        return estable;
+    }
+
+    /**
+     * Describe para la consola si el estado coincide con el patrón almacenado o a cuántas neuronas quedó de él.
+     */
+    private String describirCercania(PatronEmpaquetado estado, int indice) {
+        int distancia = patronesEmpaquetados.get(indice).distanciaHamming(estado);
+        if (distancia == 0) {
+            return "coincide con el patrón almacenado " + (indice + 1) + " (estable)";
+        }
+        return "quedó a " + distancia + (distancia == 1 ? " neurona" : " neuronas") + " del patrón almacenado "
+                + (indice + 1) + " (estable, tolerancia: " + toleranciaHamming + ")";
+    }
+
+    /**
+     * Cierra la recuperación devolviendo el patrón almacenado indicado y, si la entrada es cacheable,
+     * guarda el resultado en la caché.
+     */
+    private int[] finalizarEnPatronAlmacenado(PatronEmpaquetado entrada, int indice, int iteraciones) {
+        int[] atractor = patronesEmpaquetados.get(indice).desempaquetar();
+        printPatron(atractor, (int)Math.sqrt(tamano));
+        guardarEnCache(entrada, patronesEmpaquetados.get(indice), iteraciones);
+        System.out.println("\n♦♦  ¡Reconstrucción completada!  ♦♦");
+        return atractor;
+    }
+
+    /**
+     * Guarda en la caché LRU el atractor alcanzado desde una entrada (si ya estaba, se queda con el de menos iteraciones).
+     * Las entradas no bipolares ({@code null}) no se guardan.
+     */
+    private void guardarEnCache(PatronEmpaquetado entrada, PatronEmpaquetado atractor, int iteraciones) {
+        if (entrada == null) {
+            return;
+        }
+        ResultadoRellamado previo = cacheRellamados.get(entrada);
+        if (previo == null || iteraciones < previo.iteraciones) {
+            cacheRellamados.put(entrada, new ResultadoRellamado(atractor, iteraciones));
+        }
+    }
+
 
     /**
      * Recupera un patrón con actualización secuencial (asincrónica).
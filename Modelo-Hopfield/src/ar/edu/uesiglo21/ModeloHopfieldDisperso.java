@@ -0,0 +1,437 @@
+package ar.edu.uesiglo21;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Variante del modelo de Hopfield con conectividad diluida (dispersa).
+ * A diferencia de {@link ModeloHopfield}, donde todas las neuronas están conectadas entre sí, aquí cada neurona
+ * se conecta solamente con un subconjunto de las demás: uno elegido a mano, uno aleatorio, o bien su vecindad
+ * local dentro de la cuadrícula de la imagen.
+ * <br><br>
+ * Los pesos se guardan en formato CSR (<i>compressed sparse row</i>): para cada neurona {@code i}, sus conexiones
+ * ocupan las posiciones {@code inicioFila[i]} a {@code inicioFila[i + 1] - 1} de los arreglos {@code columnas} y
+ * {@code pesos}. De esta forma, la memoria y el tiempo de recuperación dependen de la cantidad de conexiones y no
+ * de n², lo que permite trabajar con patrones de millones de píxeles.
+ */
+public class ModeloHopfieldDisperso {
+    /** Por encima de esta cantidad de neuronas no se imprimen los patrones intermedios (serían ilegibles). */
+    private static final int LIMITE_IMPRESION = 2500;
+
+    /** Largo máximo de arreglo que admiten las JVM habituales (algo menos que {@code Integer.MAX_VALUE}). */
+    private static final int MAXIMO_ARREGLO = Integer.MAX_VALUE - 8;
+
+    /** Cantidad total de neuronas (dimensión de la red). */
+    private final int tamano;
+
+    /** Ancho de la imagen matricial (sólo se usa para mostrar los patrones). */
+    private final int ancho;
+
+    /** Índice, para cada neurona, de su primera conexión en {@code columnas} y {@code pesos}. Largo: tamano + 1. */
+    private final int[] inicioFila;
+
+    /** Neurona destino de cada conexión (ordenadas de menor a mayor dentro de cada fila). */
+    private final int[] columnas;
+
+    /** Peso sináptico de cada conexión. */
+    private final int[] pesos;
+
+    /**
+     * Constructor interno. Recibe la estructura CSR ya armada; los pesos arrancan en cero.
+     * Para crear una red se usan los métodos {@code conVecindadLocal}, {@code conConexionesAleatorias}
+     * o {@code conConexiones}.
+     */
+    private ModeloHopfieldDisperso(int tamano, int ancho, int[] inicioFila, int[] columnas) {
+        this.tamano = tamano;
+        this.ancho = ancho;
+        this.inicioFila = inicioFila;
+        this.columnas = columnas;
+        this.pesos = new int[columnas.length];
+    }
+
+    /**
+     * Crea una red donde cada neurona (píxel) se conecta con los píxeles de su vecindad local, es decir, los que
+     * están a una distancia de a lo sumo {@code radio} filas y {@code radio} columnas dentro de la cuadrícula.
+     *
+     * @param ancho Ancho de la imagen matricial.
+     * @param alto Alto de la imagen matricial.
+     * @param radio Radio de la vecindad (1 = los 8 vecinos inmediatos).
+     * @return Red dispersa con conectividad local.
+     */
+    public static ModeloHopfieldDisperso conVecindadLocal(int ancho, int alto, int radio) {
+        if (ancho < 1 || alto < 1 || radio < 1) {
+            throw new IllegalArgumentException("El ancho, el alto y el radio deben ser positivos.");
+        }
+        int tamano = comoEntero((long) ancho * alto, "neuronas");
+
+        // El total de conexiones es (filas alcanzadas por cada fila) x (columnas alcanzadas por cada columna),
+        // menos las autoconexiones; se verifica antes de reservar memoria
+        long sumaFilas = 0;
+        for (int fila = 0; fila < alto; fila++) {
+            sumaFilas += Math.min(alto - 1L, (long) fila + radio) - Math.max(0L, (long) fila - radio) + 1;
+        }
+        long sumaCols = 0;
+        for (int col = 0; col < ancho; col++) {
+            sumaCols += Math.min(ancho - 1L, (long) col + radio) - Math.max(0L, (long) col - radio) + 1;
+        }
+        comoEntero(sumaFilas * sumaCols - tamano, "conexiones");
+
+        // Primera pasada: contar conexiones por fila (se recorta la ventana en los bordes de la imagen)
+        int[] inicioFila = new int[tamano + 1];
+        for (int fila = 0; fila < alto; fila++) {
+            int filas = Math.min(alto - 1, fila + radio) - Math.max(0, fila - radio) + 1;
+            for (int col = 0; col < ancho; col++) {
+                int cols = Math.min(ancho - 1, col + radio) - Math.max(0, col - radio) + 1;
+                int i = fila * ancho + col;
+                inicioFila[i + 1] = inicioFila[i] + filas * cols - 1; // -1: sin autoconexión
+            }
+        }
+
+        // Segunda pasada: completar las columnas (el recorrido ya las deja ordenadas)
+        int[] columnas = new int[inicioFila[tamano]];
+        for (int fila = 0; fila < alto; fila++) {
+            for (int col = 0; col < ancho; col++) {
+                int i = fila * ancho + col;
+                int k = inicioFila[i];
+                for (int f = Math.max(0, fila - radio); f <= Math.min(alto - 1, fila + radio); f++) {
+                    for (int c = Math.max(0, col - radio); c <= Math.min(ancho - 1, col + radio); c++) {
+                        int j = f * ancho + c;
+                        if (j != i) {
+                            columnas[k++] = j;
+                        }
+                    }
+                }
+            }
+        }
+        return new ModeloHopfieldDisperso(tamano, ancho, inicioFila, columnas);
+    }
+
+    /**
+     * Crea una red donde cada neurona elige al azar {@code conexionesPorNeurona} neuronas con las que conectarse.
+     * Las conexiones se simetrizan (si i se conecta con j, también j con i), condición necesaria para que la
+     * red de Hopfield converja; por eso algunas neuronas terminan con más conexiones que las pedidas.
+     *
+     * @param tamano Cantidad total de neuronas (pixeles).
+     * @param ancho Ancho de la imagen matricial (sólo para mostrar los patrones).
+     * @param conexionesPorNeurona Cantidad de conexiones que elige cada neurona.
+     * @param semilla Semilla del generador aleatorio (para poder repetir los experimentos).
+     * @return Red dispersa con conectividad aleatoria.
+     */
+    public static ModeloHopfieldDisperso conConexionesAleatorias(int tamano, int ancho, int conexionesPorNeurona,
+                                                                 long semilla) {
+        if (tamano < 2 || conexionesPorNeurona < 1 || conexionesPorNeurona >= tamano) {
+            throw new IllegalArgumentException("Se requieren al menos 2 neuronas y entre 1 y " + (tamano - 1)
+                    + " conexiones por neurona.");
+        }
+        verificarAncho(ancho);
+        Random random = new Random(semilla);
+        // Cada arista elegida se guarda en ambos sentidos, así que el doble también tiene que entrar en un int
+        int cantidad = comoEntero((long) tamano * conexionesPorNeurona, "aristas");
+        comoEntero(2L * cantidad, "conexiones");
+        int[] origen = new int[cantidad];
+        int[] destino = new int[cantidad];
+        int k = 0;
+        for (int i = 0; i < tamano; i++) {
+            for (int c = 0; c < conexionesPorNeurona; c++) {
+                // Se elige entre las otras tamano - 1 neuronas, salteando a la propia
+                int j = random.nextInt(tamano - 1);
+                origen[k] = i;
+                destino[k] = j >= i ? j + 1 : j;
+                k++;
+            }
+        }
+        return desdeAristas(tamano, ancho, origen, destino, cantidad);
+    }
+
+    /**
+     * Crea una red con las conexiones indicadas explícitamente: {@code vecinos[i]} contiene las neuronas con las
+     * que se conecta la neurona {@code i}. Se descartan autoconexiones y repetidos, y las conexiones se simetrizan.
+     *
+     * @param vecinos Lista de vecinos de cada neurona.
+     * @param ancho Ancho de la imagen matricial (sólo para mostrar los patrones).
+     * @return Red dispersa con la conectividad dada.
+     */
+    public static ModeloHopfieldDisperso conConexiones(int[][] vecinos, int ancho) {
+        verificarAncho(ancho);
+        int tamano = vecinos.length;
+        long total = 0;
+        for (int[] v : vecinos) {
+            total += v.length;
+        }
+        int cantidad = comoEntero(total, "aristas");
+        int[] origen = new int[cantidad];
+        int[] destino = new int[cantidad];
+        int k = 0;
+        for (int i = 0; i < tamano; i++) {
+            for (int j : vecinos[i]) {
+                if (j < 0 || j >= tamano) {
+                    throw new IllegalArgumentException("La neurona " + i + " referencia a una neurona inexistente: " + j);
+                }
+                origen[k] = i;
+                destino[k] = j;
+                k++;
+            }
+        }
+        return desdeAristas(tamano, ancho, origen, destino, cantidad);
+    }
+
+    /**
+     * Arma la estructura CSR a partir de una lista de aristas, agregando ambos sentidos de cada una,
+     * descartando autoconexiones y eliminando repetidos.
+     */
+    private static ModeloHopfieldDisperso desdeAristas(int tamano, int ancho, int[] origen, int[] destino,
+                                                       int cantidad) {
+        // Cada arista (salvo las autoconexiones) aporta una conexión a cada extremo
+        long total = 0;
+        for (int k = 0; k < cantidad; k++) {
+            if (origen[k] != destino[k]) {
+                total += 2;
+            }
+        }
+        comoEntero(total, "conexiones");
+
+        // Contar conexiones por fila
+        int[] inicioFila = new int[tamano + 1];
+        for (int k = 0; k < cantidad; k++) {
+            if (origen[k] != destino[k]) {
+                inicioFila[origen[k] + 1]++;
+                inicioFila[destino[k] + 1]++;
+            }
+        }
+        for (int i = 0; i < tamano; i++) {
+            inicioFila[i + 1] += inicioFila[i];
+        }
+
+        // Distribuir las aristas en sus filas
+        int[] columnas = new int[inicioFila[tamano]];
+        int[] siguiente = Arrays.copyOf(inicioFila, tamano);
+        for (int k = 0; k < cantidad; k++) {
+            if (origen[k] != destino[k]) {
+                columnas[siguiente[origen[k]]++] = destino[k];
+                columnas[siguiente[destino[k]]++] = origen[k];
+            }
+        }
+
+        // Ordenar cada fila y compactar quitando repetidos
+        int escritura = 0;
+        int inicio = 0;
+        for (int i = 0; i < tamano; i++) {
+            int fin = inicioFila[i + 1];
+            Arrays.sort(columnas, inicio, fin);
+            inicioFila[i] = escritura;
+            for (int k = inicio; k < fin; k++) {
+                if (k == inicio || columnas[k] != columnas[k - 1]) {
+                    columnas[escritura++] = columnas[k];
+                }
+            }
+            inicio = fin;
+        }
+        inicioFila[tamano] = escritura;
+
+        return new ModeloHopfieldDisperso(tamano, ancho, inicioFila, Arrays.copyOf(columnas, escritura));
+    }
+
+    /**
+     * Verifica que el ancho usado para mostrar los patrones sea válido.
+     */
+    private static void verificarAncho(int ancho) {
+        if (ancho < 1) {
+            throw new IllegalArgumentException("El ancho debe ser positivo.");
+        }
+    }
+
+    /**
+     * Convierte una cantidad calculada en {@code long} a {@code int}, verificando que entre en un arreglo de Java.
+     */
+    private static int comoEntero(long cantidad, String descripcion) {
+        if (cantidad > MAXIMO_ARREGLO) {
+            throw new IllegalArgumentException("Demasiadas " + descripcion + " (" + cantidad
+                    + "): el máximo admitido es " + MAXIMO_ARREGLO + ". Reduzca el tamaño o la conectividad.");
+        }
+        return (int) cantidad;
+    }
+
+    /**
+     * Devuelve la cantidad total de conexiones (dirigidas) almacenadas en la red.
+     *
+     * @return Cantidad de conexiones; cada par de neuronas conectadas cuenta dos veces.
+     */
+    public int getCantidadConexiones() {
+        return columnas.length;
+    }
+
+    /**
+     * Entrena la red neuronal con los patrones dados utilizando la regla de aprendizaje de Hebb,
+     * pero sólo sobre las conexiones existentes.
+     * Los patrones deben estar en el formato: (1, -1).
+     *
+     * @param patrones Matriz con los patrones a almacenar en la red.
+     */
+    public void entrenarHebb(int[][] patrones) {
+        System.out.println("\n☻☻☻  Entrenando la red neuronal dispersa con Hebb...  ☻☻☻");
+        for (int idx = 0; idx < patrones.length; idx++) {
+            int[] p = patrones[idx];
+            System.out.println("Entrenando con el patrón " + (idx + 1));
+            for (int i = 0; i < tamano; i++) {
+                for (int k = inicioFila[i]; k < inicioFila[i + 1]; k++) {
+                    pesos[k] += p[i] * p[columnas[k]];
+                }
+            }
+        }
+        System.out.println("√ ¡Finalizado! Red neuronal dispersa entrenada con Hebb.");
+    }
+
+    /**
+     * Intenta recuperar un patrón almacenado a partir de una entrada dañada o incompleta,
+     * actualizando todas las neuronas a la vez.
+     *
+     * @param patron Patron inicial dañado o incompleto.
+     * @param iteraciones Número de iteraciones máximas para estabilizar el patrón.
+     * @return Patrón recuperado luego del proceso iterativo.
+     */
+    public int[] rellamarSincronico(int[] patron, int iteraciones) {
+        int[] resultado = Arrays.copyOf(patron, tamano);
+        int[] nuevoResultado = new int[tamano];
+        System.out.println("\n♦♦  Iniciando recuperación del patrón (red dispersa)...  ♦♦");
+        for (int iteracion = 0; iteracion < iteraciones; iteracion++) {
+            System.out.println("\nIteración " + (iteracion + 1) + ":");
+            int cambios = 0;
+            for (int i = 0; i < tamano; i++) {
+                nuevoResultado[i] = campoLocal(i, resultado) >= 0 ? 1 : -1;
+                if (nuevoResultado[i] != resultado[i]) {
+                    cambios++;
+                }
+            }
+
+            // Verificación de estabilidad (punto fijo)
+            if (cambios == 0) {
+                System.out.println("Patrón estable alcanzado en iteración " + (iteracion + 1) + "♣♣♣♣");
+                mostrar(resultado);
+                break;
+            }
+
+            // Se reutilizan los dos arreglos en lugar de crear uno nuevo por iteración
+            int[] aux = resultado;
+            resultado = nuevoResultado;
+            nuevoResultado = aux;
+            System.out.println("Neuronas modificadas: " + cambios);
+            mostrar(resultado);
+        }
+        System.out.println("\n♦♦  ¡Reconstrucción completada!  ♦♦");
+        return resultado;
+    }
+
+    /**
+     * Recupera un patrón con actualización secuencial (asincrónica), neurona por neurona.
+     * Para redes chicas muestra cada cambio; para redes grandes sólo informa la cantidad de cambios por iteración.
+     *
+     * @param patron Patrón dañado.
+     * @param iteraciones Iteraciones máximas.
+     * @return Patrón recuperado.
+     */
+    public int[] rellamarAsincronico(int[] patron, int iteraciones) {
+        int[] resultado = Arrays.copyOf(patron, tamano);
+        boolean detallar = tamano <= LIMITE_IMPRESION;
+
+        System.out.println("\n--- Iniciando recuperación en red dispersa (actualización secuencial) ---");
+        mostrar(resultado);
+
+        for (int iteracion = 0; iteracion < iteraciones; iteracion++) {
+            System.out.println("\nIteración " + (iteracion + 1) + " (neurona por neurona):");
+
+            int cambios = 0;
+
+            for (int i = 0; i < tamano; i++) {
+                int valorAnterior = resultado[i];
+                int valorNuevo = campoLocal(i, resultado) >= 0 ? 1 : -1;
+
+                if (valorAnterior != valorNuevo) {
+                    cambios++;
+                    if (detallar) {
+                        System.out.println("\n☼ Cambio en la neurona " + i + ":");
+                        System.out.println("Antes:");
+                        printPatron(resultado);
+                    }
+                    resultado[i] = valorNuevo;
+                    if (detallar) {
+                        System.out.println("Después:");
+                        printPatron(resultado);
+                    }
+                }
+            }
+
+            if (cambios == 0) {
+                System.out.println("\n√ Patrón estable alcanzado en iteración " + (iteracion + 1));
+                break;
+            }
+            System.out.println("Neuronas modificadas: " + cambios);
+        }
+
+        System.out.println("--- Recuperación completada ---");
+        return resultado;
+    }
+
+    /**
+     * Calcula el campo local (suma ponderada de entradas) de la neurona {@code i}, recorriendo sólo sus conexiones.
+     */
+    private int campoLocal(int i, int[] estado) {
+        int suma = 0;
+        for (int k = inicioFila[i]; k < inicioFila[i + 1]; k++) {
+            suma += pesos[k] * estado[columnas[k]];
+        }
+        return suma;
+    }
+
+    /** Muestra el patrón por consola sólo si la red es lo bastante chica como para que tenga sentido. */
+    private void mostrar(int[] patron) {
+        if (tamano <= LIMITE_IMPRESION) {
+            printPatron(patron);
+        }
+    }
+
+    private void printPatron(int[] patron) {
+        ModeloHopfield.printPatron(patron, ancho);
+    }
+
+    /**
+     * Método main que ejecuta un ejemplo con una imagen de 1000x1000 píxeles (un millón de neuronas), tamaño
+     * imposible de manejar con la red totalmente conectada.
+     * @param args Argumentos estándar de ejecución (no utilizados en este ejemplo).
+     */
+    public static void main(String[] args) {
+        int ancho = 1000;
+        int alto = 1000;
+        int tamano = ancho * alto;
+
+        // Patrón: un anillo centrado sobre fondo apagado
+        int[] patronLimpio = new int[tamano];
+        for (int fila = 0; fila < alto; fila++) {
+            for (int col = 0; col < ancho; col++) {
+                double distancia = Math.hypot(fila - alto / 2.0, col - ancho / 2.0);
+                patronLimpio[fila * ancho + col] = (distancia > 200 && distancia < 300) ? 1 : -1;
+            }
+        }
+
+        // Patrón dañado: se invierte el 10% de los píxeles al azar
+        Random random = new Random(21);
+        int[] patronSucio = Arrays.copyOf(patronLimpio, tamano);
+        for (int i = 0; i < tamano / 10; i++) {
+            int pos = random.nextInt(tamano);
+            patronSucio[pos] = -patronSucio[pos];
+        }
+
+        ModeloHopfieldDisperso modelo = ModeloHopfieldDisperso.conVecindadLocal(ancho, alto, 2);
+        System.out.println("Red dispersa de " + tamano + " neuronas y " + modelo.getCantidadConexiones()
+                + " conexiones (una red completa tendría " + ((long) tamano * (tamano - 1)) + ").");
+        modelo.entrenarHebb(new int[][]{patronLimpio});
+        int[] recuperado = modelo.rellamarSincronico(patronSucio, 10);
+
+        int errores = 0;
+        for (int i = 0; i < tamano; i++) {
+            if (recuperado[i] != patronLimpio[i]) {
+                errores++;
+            }
+        }
+        System.out.println("→ Píxeles distintos al patrón limpio luego de la recuperación: " + errores);
+    }
+}
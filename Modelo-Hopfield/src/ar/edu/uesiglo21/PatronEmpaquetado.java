@@ -0,0 +1,91 @@
+package ar.edu.uesiglo21;
+
+import java.util.Arrays;
+
+/**
+ * Representación compacta de un patrón bipolar (1, -1): cada neurona ocupa un bit dentro de un arreglo de
+ * {@code long} (1 = activada). Guarda además su hash precalculado, por lo que puede usarse como clave de
+ * índices y cachés, y permite calcular la distancia de Hamming entre patrones de a 64 neuronas por vez.
+ */
+final class PatronEmpaquetado {
+    /** Cantidad de neuronas del patrón. */
+    private final int tamano;
+
+    /** Bits del patrón, 64 neuronas por elemento. */
+    private final long[] bits;
+
+    /** Hash precalculado de {@code bits}. */
+    private final int hash;
+
+    /**
+     * Indica si el patrón es estrictamente bipolar (sólo 1 y -1), es decir, si puede empaquetarse sin pérdida.
+     *
+     * @param patron Patrón a verificar.
+     * @return {@code true} si todos sus valores son 1 o -1.
+     */
+    static boolean esBipolar(int[] patron) {
+        for (int v : patron) {
+            if (v != 1 && v != -1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Empaqueta un patrón bipolar. Toda neurona con valor distinto de 1 se considera desactivada, por lo que
+     * sólo es una representación fiel si {@link #esBipolar(int[])} es verdadero.
+     *
+     * @param patron Patrón en formato (1, -1).
+     */
+    PatronEmpaquetado(int[] patron) {
+        this.tamano = patron.length;
+        this.bits = new long[(tamano + 63) >>> 6];
+        for (int i = 0; i < tamano; i++) {
+            if (patron[i] == 1) {
+                bits[i >>> 6] |= 1L << i;
+            }
+        }
+        this.hash = 31 * Arrays.hashCode(bits) + tamano;
+    }
+
+    /**
+     * Calcula la cantidad de neuronas en las que difieren dos patrones del mismo tamaño.
+     *
+     * @param otro Patrón con el cual comparar.
+     * @return Distancia de Hamming entre ambos patrones.
+     */
+    int distanciaHamming(PatronEmpaquetado otro) {
+        int distancia = 0;
+        for (int k = 0; k < bits.length; k++) {
+            distancia += Long.bitCount(bits[k] ^ otro.bits[k]);
+        }
+        return distancia;
+    }
+
+    /**
+     * Reconstruye el patrón en formato (1, -1).
+     *
+     * @return Nuevo arreglo con el patrón desempaquetado.
+     */
+    int[] desempaquetar() {
+        int[] patron = new int[tamano];
+        for (int i = 0; i < tamano; i++) {
+            patron[i] = (bits[i >>> 6] & (1L << i)) != 0 ? 1 : -1;
+        }
+        return patron;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PatronEmpaquetado)) return false;
+        PatronEmpaquetado otro = (PatronEmpaquetado) o;
+        return tamano == otro.tamano && hash == otro.hash && Arrays.equals(bits, otro.bits);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}